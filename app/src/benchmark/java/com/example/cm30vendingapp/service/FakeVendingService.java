@@ -0,0 +1,80 @@
+package com.example.cm30vendingapp.service;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.Service;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.os.IBinder;
+
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
+import androidx.localbroadcastmanager.content.LocalBroadcastManager;
+
+import com.example.cm30vendingapp.R;
+import com.example.cm30vendingapp.VendingEvents;
+import com.example.cm30vendingapp.util.LoggerHelper;
+
+/**
+ * FakeVendingService: stands in for VendingService in the benchmark build so MainActivity
+ * can be measured on devices without the CM30 card reader or MDB bus.
+ *
+ * Goes online as soon as it starts, then replays whatever event it is started with:
+ *   adb shell am start-foreground-service -n com.example.cm30vendingapp/.service.FakeVendingService \
+ *       --ei event 3 --ed amount 1.50
+ */
+public class FakeVendingService extends Service {
+    private static final String TAG = "FakeVendingService";
+    private static final String CHANNEL_ID = "cm30_vending_channel";
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        LoggerHelper.log(TAG, "Service onCreate");
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        // Every startForegroundService() call must be answered with startForeground()
+        createForegroundNotification();
+
+        int event = intent != null
+                ? intent.getIntExtra(VendingEvents.KEY_EVENT, VendingEvents.EVENT_ONLINE)
+                : VendingEvents.EVENT_ONLINE;
+
+        Intent status = new Intent(VendingEvents.ACTION_STATUS);
+        status.putExtra(VendingEvents.KEY_EVENT, event);
+        if (event == VendingEvents.EVENT_VEND_STARTED) {
+            status.putExtra(VendingEvents.KEY_AMOUNT, intent.getDoubleExtra(VendingEvents.KEY_AMOUNT, 0.0));
+        }
+        LocalBroadcastManager.getInstance(this).sendBroadcast(status);
+        LoggerHelper.log(TAG, "Broadcasted fake event: " + event);
+
+        return START_NOT_STICKY;
+    }
+
+    private void createForegroundNotification() {
+        NotificationChannel channel = new NotificationChannel(
+                CHANNEL_ID,
+                "CM30 Vending Service",
+                NotificationManager.IMPORTANCE_LOW
+        );
+        NotificationManager nm = getSystemService(NotificationManager.class);
+        if (nm != null) nm.createNotificationChannel(channel);
+
+        Notification notification = new NotificationCompat.Builder(this, CHANNEL_ID)
+                .setContentTitle("Vending service running (fake)")
+                .setSmallIcon(R.drawable.ic_vending)
+                .setOngoing(true)
+                .build();
+
+        startForeground(1337, notification, ServiceInfo.FOREGROUND_SERVICE_TYPE_CONNECTED_DEVICE);
+    }
+
+    @Nullable
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.cm30vendingapp.service;
+
+import android.app.Service;
+
+/**
+ * VendingServiceLauncher: the service MainActivity starts in the benchmark build.
+ * Device builds use the copy in src/device, which points at VendingService.
+ */
+public class VendingServiceLauncher {
+    public static final Class<? extends Service> SERVICE = FakeVendingService.class;
+}
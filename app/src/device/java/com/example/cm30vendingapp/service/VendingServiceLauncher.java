@@ -0,0 +1,11 @@
+package com.example.cm30vendingapp.service;
+
+import android.app.Service;
+
+/**
+ * VendingServiceLauncher: the service MainActivity starts on device builds (debug/release).
+ * The benchmark build has its own copy pointing at FakeVendingService.
+ */
+public class VendingServiceLauncher {
+    public static final Class<? extends Service> SERVICE = VendingService.class;
+}
@@ -20,7 +20,7 @@ import androidx.core.content.FileProvider;
 import androidx.localbroadcastmanager.content.LocalBroadcastManager;
 
 import com.airbnb.lottie.LottieAnimationView;
-import com.example.cm30vendingapp.service.VendingService;
+import com.example.cm30vendingapp.service.VendingServiceLauncher;
 import com.example.cm30vendingapp.util.LoggerHelper;
 
 import java.io.File;
@@ -94,8 +94,8 @@ public class MainActivity extends AppCompatActivity {
                 .registerReceiver(statusReceiver, new IntentFilter(VendingEvents.ACTION_STATUS));
 
         // Start the vending service
-        startForegroundService(new Intent(this, VendingService.class));
-        LoggerHelper.log("MainActivity", "VendingService started");
+        startForegroundService(new Intent(this, VendingServiceLauncher.SERVICE));
+        LoggerHelper.log("MainActivity", VendingServiceLauncher.SERVICE.getSimpleName() + " started");
     }
 
     @Override
@@ -0,0 +1,126 @@
+package com.example.cm30vendingapp.catalog;
+
+import java.util.Arrays;
+
+/**
+ * IntIntMap - int-keyed open-addressing hash map with int values.
+ *
+ * Linear probing over parallel primitive arrays, so lookups never box or allocate.
+ * Keys must be non-negative (MDB item numbers are 0..0xFFFF); -1 marks a free slot.
+ * Not thread-safe: callers synchronize.
+ */
+public class IntIntMap {
+
+    private static final int FREE = -1;
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    public IntIntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntIntMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Returns the value for key, or missing if absent.
+     */
+    public int get(int key, int missing) {
+        if (key < 0) return missing;
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) return values[i];
+            if (k == FREE) return missing;
+        }
+    }
+
+    public boolean containsKey(int key) {
+        if (key < 0) return false;
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) return true;
+            if (k == FREE) return false;
+        }
+    }
+
+    /**
+     * Maps key to value. Returns true if the map changed.
+     */
+    public boolean put(int key, int value) {
+        if (key < 0) throw new IllegalArgumentException("Negative key: " + key);
+
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keys[i] != FREE) {
+            if (keys[i] == key) {
+                if (values[i] == value) return false;
+                values[i] = value;
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        // Keep load factor <= 0.5 so probe chains stay short
+        if (++size * 2 > keys.length) rehash(keys.length * 2);
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies entries into the given arrays (each at least size() long) and returns size().
+     */
+    public int entries(int[] keysOut, int[] valuesOut) {
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == FREE) continue;
+            keysOut[n] = keys[i];
+            valuesOut[n] = values[i];
+            n++;
+        }
+        return n;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < expectedSize * 2) capacity <<= 1;
+        return capacity;
+    }
+
+    /** Spreads sequential item numbers across the table. */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
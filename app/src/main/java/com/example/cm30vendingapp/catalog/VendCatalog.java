@@ -0,0 +1,295 @@
+package com.example.cm30vendingapp.catalog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * VendCatalog - what the VMC has told us about its products: item number -> price,
+ * the min/max price limits, and the scale factor the prices are expressed in.
+ *
+ * Prices are kept in MDB scaled units exactly as they arrive on the bus.
+ * Learned from Setup Max/Min Prices and Vend Request traffic, persisted to a
+ * small snapshot file so limits are known immediately after a power cycle.
+ *
+ * The VMC uses either the standard (16-bit) or the expanded currency (32-bit) price
+ * format for all messages; the format of the setup payload decides how vend requests
+ * are read.
+ */
+public class VendCatalog {
+
+    public static final int VEND_OK = 0;
+    public static final int VEND_BELOW_MIN = 1;
+    public static final int VEND_ABOVE_MAX = 2;
+    public static final int VEND_MALFORMED = 3;
+    /** Allowed, but the item was last seen at a different price (VMC repriced it). */
+    public static final int VEND_PRICE_CHANGED = 4;
+
+    public static final int NO_PRICE = -1;
+
+    /** MDB item number meaning "not supplied by the VMC". */
+    private static final int ITEM_UNKNOWN = 0xFFFF;
+
+    static final int FORMAT_UNKNOWN = 0;
+    static final int FORMAT_STANDARD = 1; // 2-byte prices
+    static final int FORMAT_EXPANDED = 2; // 4-byte prices
+
+    static final int SNAPSHOT_MAGIC = 0x434D3330; // "CM30"
+    static final int SNAPSHOT_VERSION = 2;
+
+    private final int scaleFactor;
+    private final int decimalPlaces;
+    private final double amountDivisor;
+    private final IntIntMap prices = new IntIntMap();
+
+    // Unknown until the VMC sends Setup Max/Min Prices
+    private long minPrice = 0;
+    private long maxPrice = Long.MAX_VALUE;
+    private int format = FORMAT_UNKNOWN;
+
+    // Changed since the last save()
+    private boolean dirty = false;
+
+    public VendCatalog(int scaleFactor, int decimalPlaces) {
+        this.scaleFactor = scaleFactor;
+        this.decimalPlaces = decimalPlaces;
+        this.amountDivisor = Math.pow(10, decimalPlaces);
+    }
+
+    /**
+     * Result of checkVendRequest: the VEND_* code plus the values parsed from the payload.
+     */
+    public static final class VendCheck {
+        public final int result;
+        public final int item;
+        /** Requested price in scaled units, or NO_PRICE if the payload was malformed. */
+        public final long price;
+        /** Price the item was last seen at before this request, or NO_PRICE. */
+        public final int previousPrice;
+
+        VendCheck(int result, int item, long price, int previousPrice) {
+            this.result = result;
+            this.item = item;
+            this.price = price;
+            this.previousPrice = previousPrice;
+        }
+
+        /** True for the VEND_* codes that let the vend go ahead. */
+        public boolean isAllowed() {
+            return result == VEND_OK || result == VEND_PRICE_CHANGED;
+        }
+    }
+
+    // ------------------ MDB payloads ------------------
+
+    /**
+     * Setup Max/Min Prices: 2+2 bytes (standard) or 4+4(+currency) bytes (expanded currency).
+     * Returns false if the payload is too short to use.
+     */
+    public synchronized boolean onSetupMaxMinPrices(byte[] data) {
+        if (data == null || data.length < 4) return false;
+
+        int setupFormat = data.length >= 8 ? FORMAT_EXPANDED : FORMAT_STANDARD;
+        long max, min;
+        if (setupFormat == FORMAT_EXPANDED) {
+            max = readUInt32(data, 0);
+            min = readUInt32(data, 4);
+            if (max == 0xFFFFFFFFL) max = Long.MAX_VALUE;
+        } else {
+            max = readUInt16(data, 0);
+            min = readUInt16(data, 2);
+            if (max == 0xFFFF) max = Long.MAX_VALUE;
+        }
+        if (min > max) return false;
+
+        if (min != minPrice || max != maxPrice || setupFormat != format) dirty = true;
+        minPrice = min;
+        maxPrice = max;
+        format = setupFormat;
+        return true;
+    }
+
+    /**
+     * Checks a Vend Request against the price limits and the last known price of its item,
+     * then records the item price. Constant time, one lock, one parse.
+     *
+     * Vend Request: price (2 or 4 bytes, same width as the setup prices) followed by
+     * item number (2 bytes).
+     */
+    public synchronized VendCheck checkVendRequest(byte[] payload) {
+        if (payload == null) return new VendCheck(VEND_MALFORMED, ITEM_UNKNOWN, NO_PRICE, NO_PRICE);
+
+        int width = priceWidth(payload);
+        if (payload.length < width) return new VendCheck(VEND_MALFORMED, ITEM_UNKNOWN, NO_PRICE, NO_PRICE);
+        long price = width == 4 ? readUInt32(payload, 0) : readUInt16(payload, 0);
+        int item = payload.length >= width + 2 ? readUInt16(payload, width) : ITEM_UNKNOWN;
+
+        int known = prices.get(item, NO_PRICE);
+        if (price < minPrice) return new VendCheck(VEND_BELOW_MIN, item, price, known);
+        if (price > maxPrice) return new VendCheck(VEND_ABOVE_MAX, item, price, known);
+        if (item == ITEM_UNKNOWN || price > Integer.MAX_VALUE || known == price) {
+            return new VendCheck(VEND_OK, item, price, known);
+        }
+
+        prices.put(item, (int) price);
+        dirty = true;
+        return new VendCheck(known == NO_PRICE ? VEND_OK : VEND_PRICE_CHANGED, item, price, known);
+    }
+
+    /** Before any setup, guess from the length: 4+2 bytes is expanded, 2+2 standard. */
+    private int priceWidth(byte[] payload) {
+        if (format == FORMAT_EXPANDED) return 4;
+        if (format == FORMAT_STANDARD) return 2;
+        return payload.length >= 6 ? 4 : 2;
+    }
+
+    /**
+     * Converts a price in scaled units to currency: price x scale factor / 10^decimal places.
+     */
+    public double toAmount(long price) {
+        if (price == NO_PRICE) return 0.0;
+        return price * scaleFactor / amountDivisor;
+    }
+
+    /**
+     * Last price seen for item, in scaled units, or NO_PRICE.
+     */
+    public synchronized int priceOf(int item) {
+        return prices.get(item, NO_PRICE);
+    }
+
+    public synchronized long getMinPrice() {
+        return minPrice;
+    }
+
+    /** Long.MAX_VALUE when the VMC has not set a maximum. */
+    public synchronized long getMaxPrice() {
+        return maxPrice;
+    }
+
+    public synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    public synchronized boolean isExpandedFormat() {
+        return format == FORMAT_EXPANDED;
+    }
+
+    public synchronized int getItemCount() {
+        return prices.size();
+    }
+
+    // ------------------ Snapshot ------------------
+
+    /**
+     * Writes the catalog to a temp file, syncs it to disk, then renames it over file,
+     * so a power cut leaves either the old or the new snapshot.
+     */
+    public void save(File file) throws IOException {
+        int count;
+        int[] items;
+        int[] itemPrices;
+        long min, max;
+        int fmt;
+        synchronized (this) {
+            count = prices.size();
+            items = new int[count];
+            itemPrices = new int[count];
+            prices.entries(items, itemPrices);
+            min = minPrice;
+            max = maxPrice;
+            fmt = format;
+            dirty = false;
+        }
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            File dir = file.getParentFile();
+            if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Failed to create " + dir);
+            }
+
+            try (FileOutputStream fos = new FileOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeShort(SNAPSHOT_VERSION);
+                out.writeInt(scaleFactor);
+                out.writeByte(decimalPlaces);
+                out.writeByte(fmt);
+                out.writeLong(min);
+                out.writeLong(max);
+                out.writeInt(count);
+                for (int i = 0; i < count; i++) {
+                    out.writeShort(items[i]);
+                    out.writeInt(itemPrices[i]);
+                }
+                // Data must be on disk before the rename, or the rename can land first
+                out.flush();
+                fos.getFD().sync();
+            }
+            if (!tmp.renameTo(file)) {
+                throw new IOException("Failed to replace " + file);
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            synchronized (this) { dirty = true; }
+            throw e;
+        }
+    }
+
+    /**
+     * Loads a snapshot written by save(). Returns false, leaving the catalog untouched,
+     * if the file is missing, corrupt, or was recorded with a different scale factor.
+     */
+    public boolean load(File file) throws IOException {
+        if (!file.exists()) return false;
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) return false;
+            if (in.readUnsignedShort() != SNAPSHOT_VERSION) return false;
+            if (in.readInt() != scaleFactor) return false;
+            if (in.readUnsignedByte() != decimalPlaces) return false;
+
+            int fmt = in.readUnsignedByte();
+            long min = in.readLong();
+            long max = in.readLong();
+            int count = in.readInt();
+            if (fmt > FORMAT_EXPANDED) return false;
+            if (min < 0 || min > max || count < 0 || count > ITEM_UNKNOWN) return false;
+
+            int[] items = new int[count];
+            int[] itemPrices = new int[count];
+            for (int i = 0; i < count; i++) {
+                items[i] = in.readUnsignedShort();
+                itemPrices[i] = in.readInt();
+            }
+
+            synchronized (this) {
+                minPrice = min;
+                maxPrice = max;
+                format = fmt;
+                prices.clear();
+                for (int i = 0; i < count; i++) prices.put(items[i], itemPrices[i]);
+                dirty = false;
+            }
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private static int readUInt16(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+    }
+
+    private static long readUInt32(byte[] data, int offset) {
+        return ((long) readUInt16(data, offset) << 16) | readUInt16(data, offset + 2);
+    }
+}
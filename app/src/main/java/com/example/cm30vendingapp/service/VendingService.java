@@ -16,8 +16,11 @@ import androidx.localbroadcastmanager.content.LocalBroadcastManager;
 
 import com.example.cm30vendingapp.R;
 import com.example.cm30vendingapp.VendingEvents;
+import com.example.cm30vendingapp.catalog.VendCatalog;
 import com.example.cm30vendingapp.util.LoggerHelper;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -44,6 +47,7 @@ public class VendingService extends Service {
     private CashlessManager cashlessManager;
     private MdbSlave mdbSlave;
     private final ExecutorService vendExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService catalogExecutor = Executors.newSingleThreadExecutor();
     private volatile boolean running = false;
 
     private posPayKernel payKernel;
@@ -56,12 +60,20 @@ public class VendingService extends Service {
     private static final int CARD_ALL = CARD_MAGNETIC | CARD_IC | CARD_NFC;
     private static final int CHECK_CARD_TIMEOUT_SEC = 60;
 
+    // Reader configuration reported to the VMC: amount = scaled price x SCALE_FACTOR / 10^DECIMAL_PLACES
+    private static final int SCALE_FACTOR = 100;
+    private static final int DECIMAL_PLACES = 2;
+
+    private final VendCatalog catalog = new VendCatalog(SCALE_FACTOR, DECIMAL_PLACES);
+    private File catalogFile;
+
     @Override
     public void onCreate() {
         super.onCreate();
         LoggerHelper.log(TAG, "Service onCreate");
         createForegroundNotification();
 
+        loadCatalog();
         initCashlessManager();
         initPayKernel();
         initMdbSlave();
@@ -105,7 +117,7 @@ public class VendingService extends Service {
             return;
         }
 
-        cashlessManager.setConfiguration(3, 840, 100, 2, 30, 0);
+        cashlessManager.setConfiguration(3, 840, SCALE_FACTOR, DECIMAL_PLACES, 30, 0);
         cashlessManager.setLogLevel(3);
 
         try {
@@ -119,7 +131,9 @@ public class VendingService extends Service {
                 @Override
                 public void onVendRequest(byte[] data) {
                     LoggerHelper.log(TAG, "Cashless vend request received");
-                    vendExecutor.submit(() -> handleVendRequest(data));
+                    VendCatalog.VendCheck check = precheckVendRequest(data);
+                    if (check == null) return;
+                    vendExecutor.submit(() -> handleVendRequest(data, check.price));
                 }
 
                 @Override
@@ -140,8 +154,16 @@ public class VendingService extends Service {
                     sendStatus(VendingEvents.EVENT_PAYMENT_FAILED);
                 }
 
+                @Override
+                public void onSetupMaxMinPrices(byte[] data) {
+                    boolean ok = catalog.onSetupMaxMinPrices(data);
+                    LoggerHelper.log(TAG, "Setup max/min prices " + (ok ? "applied" : "ignored")
+                            + ": min=" + catalog.getMinPrice() + " max=" + catalog.getMaxPrice()
+                            + " expanded=" + catalog.isExpandedFormat());
+                    saveCatalog();
+                }
+
                 @Override public void onReset() {}
-                @Override public void onSetupMaxMinPrices(byte[] data) {}
                 @Override public void onSessionComplete() {}
                 @Override public void onCashSale(byte[] data) {}
                 @Override public void onNegativeVendRequest(byte[] data) {}
@@ -206,7 +228,7 @@ public class VendingService extends Service {
         LoggerHelper.log(TAG, "MDB receive loop started");
     }
 
-    private void handleVendRequest(byte[] vendPayload) {
+    private void handleVendRequest(byte[] vendPayload, long price) {
         LoggerHelper.log(TAG, "handleVendRequest: starting card check");
 
         if (readCardOpt == null) {
@@ -216,7 +238,7 @@ public class VendingService extends Service {
             return;
         }
 
-        double amount = parseAmountFromVendPayload(vendPayload);
+        double amount = catalog.toAmount(price);
         LoggerHelper.log(TAG, "Vend amount parsed: " + amount);
         sendVendStarted(amount);
 
@@ -287,13 +309,25 @@ public class VendingService extends Service {
         }
     }
 
-    private double parseAmountFromVendPayload(byte[] payload) {
-        if (payload == null || payload.length < 4) return 0.0;
-        int cents = ((payload[0] & 0xFF) << 24) |
-                ((payload[1] & 0xFF) << 16) |
-                ((payload[2] & 0xFF) << 8) |
-                (payload[3] & 0xFF);
-        return cents / 100.0;
+    /**
+     * Validates the vend request against the catalog. Out-of-range requests are denied
+     * here, without waking the card reader. Returns null if the vend was denied.
+     */
+    private VendCatalog.VendCheck precheckVendRequest(byte[] vendPayload) {
+        VendCatalog.VendCheck check = catalog.checkVendRequest(vendPayload);
+        saveCatalog();
+
+        if (check.result == VendCatalog.VEND_PRICE_CHANGED) {
+            LoggerHelper.log(TAG, "Item " + check.item + " repriced: "
+                    + check.previousPrice + " -> " + check.price);
+        }
+        if (check.isAllowed()) return check;
+
+        LoggerHelper.log(TAG, "Vend request denied by catalog, result=" + check.result
+                + " price=" + check.price + " item=" + check.item);
+        if (cashlessManager != null) cashlessManager.sendVendDenied();
+        sendStatus(VendingEvents.EVENT_PAYMENT_FAILED);
+        return null;
     }
 
     private boolean processMagstripePayment(Bundle info, double amount) {
@@ -312,6 +346,29 @@ public class VendingService extends Service {
         return true;
     }
 
+    private void loadCatalog() {
+        catalogFile = new File(new File(getFilesDir(), "catalog"), "vend_catalog.bin");
+        try {
+            boolean loaded = catalog.load(catalogFile);
+            LoggerHelper.log(TAG, "Catalog snapshot " + (loaded ? "loaded" : "not used")
+                    + ": items=" + catalog.getItemCount()
+                    + " min=" + catalog.getMinPrice() + " max=" + catalog.getMaxPrice());
+        } catch (IOException e) {
+            LoggerHelper.log(TAG, "Failed to load catalog snapshot", e);
+        }
+    }
+
+    private void saveCatalog() {
+        if (!catalog.isDirty()) return;
+        catalogExecutor.submit(() -> {
+            try {
+                catalog.save(catalogFile);
+            } catch (IOException e) {
+                LoggerHelper.log(TAG, "Failed to save catalog snapshot", e);
+            }
+        });
+    }
+
     private void handleMdbCommand(byte[] command) {
         mdbSlave.sendAnswer(0);
         LoggerHelper.log(TAG, "handleMdbCommand: acknowledged");
@@ -338,6 +395,7 @@ public class VendingService extends Service {
         running = false;
         if (mdbSlave != null) mdbSlave.close();
         vendExecutor.shutdownNow();
+        catalogExecutor.shutdown();
         try { payKernel.destroyPaySDK(); } catch (Exception ignored) {}
         LoggerHelper.log(TAG, "VendingService destroyed");
     }
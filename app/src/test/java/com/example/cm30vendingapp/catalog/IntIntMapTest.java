@@ -0,0 +1,45 @@
+package com.example.cm30vendingapp.catalog;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the open-addressing int map.
+ */
+public class IntIntMapTest {
+
+    @Test
+    public void growsAndOverwrites() {
+        IntIntMap map = new IntIntMap();
+        for (int i = 0; i < 1000; i++) assertTrue(map.put(i, i * 10));
+        assertEquals(1000, map.size());
+        assertEquals(5000, map.get(500, -1));
+        assertFalse(map.put(500, 5000));
+        assertTrue(map.put(500, 7));
+        assertEquals(7, map.get(500, -1));
+        assertEquals(-1, map.get(1000, -1));
+        assertEquals(-1, map.get(-5, -1));
+    }
+
+    @Test
+    public void entriesAndClear() {
+        IntIntMap map = new IntIntMap(4);
+        map.put(0, 1);
+        map.put(0xFFFE, 2);
+        int[] keys = new int[2];
+        int[] values = new int[2];
+        assertEquals(2, map.entries(keys, values));
+        assertEquals(0xFFFE, keys[0] + keys[1]);
+        assertEquals(3, values[0] + values[1]);
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeKey() {
+        new IntIntMap().put(-1, 0);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.cm30vendingapp.catalog;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the vend catalog: MDB payload formats, validation and snapshots.
+ */
+public class VendCatalogTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    // Setup Max/Min Prices, standard: max 500, min 50
+    private static final byte[] SETUP_STANDARD = {0x01, (byte) 0xF4, 0x00, 0x32};
+    // Setup Max/Min Prices, expanded: max 500, min 50, currency 0840
+    private static final byte[] SETUP_EXPANDED = {0, 0, 0x01, (byte) 0xF4, 0, 0, 0, 0x32, 0x08, 0x40};
+
+    /** Standard Vend Request: 2-byte price, 2-byte item. */
+    private static byte[] vendStandard(int price, int item) {
+        return new byte[] {(byte) (price >>> 8), (byte) price, (byte) (item >>> 8), (byte) item};
+    }
+
+    /** Expanded Vend Request: 4-byte price, 2-byte item. */
+    private static byte[] vendExpanded(int price, int item) {
+        return new byte[] {
+                (byte) (price >>> 24), (byte) (price >>> 16), (byte) (price >>> 8), (byte) price,
+                (byte) (item >>> 8), (byte) item
+        };
+    }
+
+    @Test
+    public void setupPrices_standardAndExpanded() {
+        VendCatalog catalog = new VendCatalog(100, 2);
+        assertTrue(catalog.onSetupMaxMinPrices(SETUP_STANDARD));
+        assertFalse(catalog.isExpandedFormat());
+        assertEquals(50, catalog.getMinPrice());
+        assertEquals(500, catalog.getMaxPrice());
+
+        assertTrue(catalog.onSetupMaxMinPrices(new byte[] {0, 0, 0x03, (byte) 0xE8, 0, 0, 0, 0x0A, 0x08, 0x40}));
+        assertTrue(catalog.isExpandedFormat());
+        assertEquals(10, catalog.getMinPrice());
+        assertEquals(1000, catalog.getMaxPrice());
+
+        assertFalse(catalog.onSetupMaxMinPrices(new byte[] {0x00}));
+        assertFalse(catalog.onSetupMaxMinPrices(new byte[] {0x00, 0x10, 0x00, 0x20})); // min > max
+        assertEquals(1000, catalog.getMaxPrice());
+    }
+
+    @Test
+    public void setupPrices_noMaximum() {
+        VendCatalog catalog = new VendCatalog(100, 2);
+        assertTrue(catalog.onSetupMaxMinPrices(new byte[] {(byte) 0xFF, (byte) 0xFF, 0x00, 0x05}));
+        assertEquals(Long.MAX_VALUE, catalog.getMaxPrice());
+        assertEquals(VendCatalog.VEND_OK, catalog.checkVendRequest(vendStandard(0xFFFE, 1)).result);
+
+        assertTrue(catalog.onSetupMaxMinPrices(new byte[] {
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0, 0, 0, 0x05, 0x08, 0x40}));
+        assertEquals(Long.MAX_VALUE, catalog.getMaxPrice());
+        assertEquals(VendCatalog.VEND_OK, catalog.checkVendRequest(vendExpanded(1_000_000, 2)).result);
+    }
+
+    @Test
+    public void checkVendRequest_standard() {
+        VendCatalog catalog = new VendCatalog(100, 2);
+        catalog.onSetupMaxMinPrices(SETUP_STANDARD);
+
+        VendCatalog.VendCheck check = catalog.checkVendRequest(vendStandard(150, 12));
+        assertEquals(VendCatalog.VEND_OK, check.result);
+        assertEquals(150, check.price);
+        assertEquals(12, check.item);
+        assertEquals(VendCatalog.NO_PRICE, check.previousPrice);
+        assertEquals(VendCatalog.VEND_BELOW_MIN, catalog.checkVendRequest(vendStandard(10, 13)).result);
+        assertEquals(VendCatalog.VEND_ABOVE_MAX, catalog.checkVendRequest(vendStandard(900, 14)).result);
+        assertEquals(VendCatalog.VEND_MALFORMED, catalog.checkVendRequest(new byte[] {1}).result);
+
+        assertEquals(150, catalog.priceOf(12));
+        assertEquals(VendCatalog.NO_PRICE, catalog.priceOf(13));
+        assertEquals(1, catalog.getItemCount());
+    }
+
+    @Test
+    public void checkVendRequest_expanded() {
+        VendCatalog catalog = new VendCatalog(100, 2);
+        catalog.onSetupMaxMinPrices(SETUP_EXPANDED);
+
+        assertEquals(VendCatalog.VEND_OK, catalog.checkVendRequest(vendExpanded(150, 12)).result);
+        assertEquals(VendCatalog.VEND_BELOW_MIN, catalog.checkVendRequest(vendExpanded(10, 13)).result);
+        assertEquals(VendCatalog.VEND_ABOVE_MAX, catalog.checkVendRequest(vendExpanded(900, 14)).result);
+        assertEquals(VendCatalog.VEND_MALFORMED, catalog.checkVendRequest(new byte[] {1, 2}).result);
+        assertEquals(150, catalog.priceOf(12));
+    }
+
+    @Test
+    public void checkVendRequest_flagsRepricedItem() {
+        VendCatalog catalog = new VendCatalog(100, 2);
+        catalog.onSetupMaxMinPrices(SETUP_STANDARD);
+
+        assertEquals(VendCatalog.VEND_OK, catalog.checkVendRequest(vendStandard(150, 12)).result);
+        assertEquals(VendCatalog.VEND_OK, catalog.checkVendRequest(vendStandard(150, 12)).result);
+        VendCatalog.VendCheck check = catalog.checkVendRequest(vendStandard(175, 12));
+        assertEquals(VendCatalog.VEND_PRICE_CHANGED, check.result);
+        assertEquals(150, check.previousPrice);
+        assertEquals(175, check.price);
+        assertTrue(check.isAllowed());
+        assertFalse(catalog.checkVendRequest(vendStandard(900, 12)).isAllowed());
+        assertEquals(175, catalog.priceOf(12));
+    }
+
+    @Test
+    public void toAmount_appliesScaleFactorAndDecimals() {
+        assertEquals(1.50, new VendCatalog(1, 2).toAmount(150), 1e-9);
+        assertEquals(0.75, new VendCatalog(5, 2).toAmount(15), 1e-9);
+        assertEquals(150.0, new VendCatalog(100, 2).toAmount(150), 1e-9);
+        assertEquals(0.0, new VendCatalog(1, 2).toAmount(VendCatalog.NO_PRICE), 1e-9);
+    }
+
+    @Test
+    public void snapshot_roundTripsAndRejectsOtherScale() throws Exception {
+        File file = new File(tmp.getRoot(), "catalog/vend_catalog.bin");
+        VendCatalog catalog = new VendCatalog(100, 2);
+        catalog.onSetupMaxMinPrices(SETUP_STANDARD);
+        catalog.checkVendRequest(vendStandard(150, 12));
+        catalog.checkVendRequest(vendStandard(275, 40));
+        assertTrue(catalog.isDirty());
+        catalog.save(file);
+        assertFalse(catalog.isDirty());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        VendCatalog restored = new VendCatalog(100, 2);
+        assertTrue(restored.load(file));
+        assertFalse(restored.isExpandedFormat());
+        assertEquals(50, restored.getMinPrice());
+        assertEquals(500, restored.getMaxPrice());
+        assertEquals(150, restored.priceOf(12));
+        assertEquals(275, restored.priceOf(40));
+        // Restored format decides how the next vend request is read
+        assertEquals(VendCatalog.VEND_OK, restored.checkVendRequest(vendStandard(150, 12)).result);
+
+        VendCatalog otherScale = new VendCatalog(1, 2);
+        assertFalse(otherScale.load(file));
+        assertEquals(0, otherScale.getItemCount());
+
+        assertFalse(new VendCatalog(100, 2).load(new File(tmp.getRoot(), "missing.bin")));
+    }
+
+    @Test
+    public void snapshot_truncatedIsIgnored() throws Exception {
+        File file = new File(tmp.getRoot(), "vend_catalog.bin");
+        VendCatalog catalog = new VendCatalog(100, 2);
+        catalog.onSetupMaxMinPrices(SETUP_STANDARD);
+        catalog.checkVendRequest(vendStandard(150, 12));
+        catalog.save(file);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+        VendCatalog restored = new VendCatalog(100, 2);
+        assertFalse(restored.load(file));
+        assertEquals(0, restored.getItemCount());
+        assertEquals(Long.MAX_VALUE, restored.getMaxPrice());
+
+        new FileOutputStream(file).close(); // empty file
+        assertFalse(restored.load(file));
+    }
+
+    @Test
+    public void snapshot_badHeaderIsIgnored() throws Exception {
+        File file = new File(tmp.getRoot(), "vend_catalog.bin");
+        VendCatalog catalog = new VendCatalog(100, 2);
+
+        writeSnapshot(file, 0x12345678, 50, 500, 0);
+        assertFalse(catalog.load(file));
+
+        writeSnapshot(file, VendCatalog.SNAPSHOT_MAGIC, 500, 50, 0); // min > max
+        assertFalse(catalog.load(file));
+
+        writeSnapshot(file, VendCatalog.SNAPSHOT_MAGIC, 50, 500, -1); // negative count
+        assertFalse(catalog.load(file));
+
+        writeSnapshot(file, VendCatalog.SNAPSHOT_MAGIC, 50, 500, 0x10000); // too many items
+        assertFalse(catalog.load(file));
+
+        writeSnapshot(file, VendCatalog.SNAPSHOT_MAGIC, 50, 500, 3); // count beyond data
+        assertFalse(catalog.load(file));
+
+        assertEquals(0, catalog.getMinPrice());
+        assertEquals(Long.MAX_VALUE, catalog.getMaxPrice());
+
+        writeSnapshot(file, VendCatalog.SNAPSHOT_MAGIC, 50, 500, 0);
+        assertTrue(catalog.load(file));
+        assertEquals(500, catalog.getMaxPrice());
+    }
+
+    /** Header of a standard-format, scale 100/2 snapshot with no item records. */
+    private static void writeSnapshot(File file, int magic, long min, long max, int count)
+            throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(magic);
+            out.writeShort(VendCatalog.SNAPSHOT_VERSION);
+            out.writeInt(100);
+            out.writeByte(2);
+            out.writeByte(VendCatalog.FORMAT_STANDARD);
+            out.writeLong(min);
+            out.writeLong(max);
+            out.writeInt(count);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.cm30vendingapp.benchmark;
+
+import android.os.Build;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.UiDevice;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import kotlin.Unit;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Records the startup and payment-UI paths into a baseline profile.
+ * Needs API 33+ or a rooted device and is skipped otherwise, so the benchmark run still
+ * works on unrooted API 30-32 hardware. Copy the result into the app with
+ * ./gradlew :benchmark:copyBaselineProfile
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generate() throws IOException {
+        assumeTrue("Baseline profiles need API 33+ or root",
+                Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU || isShellRooted());
+
+        baselineProfileRule.collect(FakeVendingBackend.PACKAGE_NAME, scope -> {
+            scope.pressHome();
+            scope.startActivityAndWait();
+
+            FakeVendingBackend backend = new FakeVendingBackend(scope.getDevice());
+            backend.goOnline();
+            runVendCycle(backend);
+            return Unit.INSTANCE;
+        });
+    }
+
+    /** One approved and one denied vend, back to the waiting screen after each. */
+    private static void runVendCycle(FakeVendingBackend backend) {
+        backend.startVend(1.50);
+        backend.approve();
+        backend.waitForIdle();
+
+        backend.startVend(2.25);
+        backend.deny();
+        backend.waitForIdle();
+    }
+
+    private static boolean isShellRooted() throws IOException {
+        UiDevice device = UiDevice.getInstance(InstrumentationRegistry.getInstrumentation());
+        return device.executeShellCommand("id -u").trim().equals("0");
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.cm30vendingapp.benchmark;
+
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.BySelector;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.Until;
+
+import java.io.IOException;
+
+/**
+ * FakeVendingBackend: drives the app's FakeVendingService (benchmark build only) over adb
+ * and waits for MainActivity to reach each vend screen.
+ *
+ * Event codes mirror com.example.cm30vendingapp.VendingEvents.
+ */
+public class FakeVendingBackend {
+    public static final String PACKAGE_NAME = "com.example.cm30vendingapp";
+
+    private static final String SERVICE = PACKAGE_NAME + "/.service.FakeVendingService";
+    private static final long SCREEN_TIMEOUT_MS = 5000;
+
+    private static final int EVENT_ONLINE = 1;
+    private static final int EVENT_VEND_STARTED = 3;
+    private static final int EVENT_PAYMENT_SUCCESS = 4;
+    private static final int EVENT_PAYMENT_FAILED = 5;
+
+    private final UiDevice device;
+
+    public FakeVendingBackend(UiDevice device) {
+        this.device = device;
+    }
+
+    public void goOnline() {
+        send("--ei event " + EVENT_ONLINE);
+        waitForStatus("Waiting for payment");
+    }
+
+    public void startVend(double amount) {
+        send("--ei event " + EVENT_VEND_STARTED + " --ed amount " + amount);
+        waitFor(By.res(PACKAGE_NAME, "tvAmount"));
+    }
+
+    public void approve() {
+        send("--ei event " + EVENT_PAYMENT_SUCCESS);
+        waitForStatus("Payment Successful");
+    }
+
+    public void deny() {
+        send("--ei event " + EVENT_PAYMENT_FAILED);
+        waitForStatus("Payment Failed");
+    }
+
+    /** MainActivity returns to the waiting screen 3 s after a result. */
+    public void waitForIdle() {
+        waitForStatus("Waiting for payment");
+    }
+
+    private void send(String extras) {
+        try {
+            device.executeShellCommand("am start-foreground-service -n " + SERVICE + " " + extras);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to reach FakeVendingService", e);
+        }
+    }
+
+    private void waitForStatus(String text) {
+        waitFor(By.res(PACKAGE_NAME, "tvCenterStatus").textContains(text));
+    }
+
+    private void waitFor(BySelector selector) {
+        if (!device.wait(Until.hasObject(selector), SCREEN_TIMEOUT_MS)) {
+            throw new AssertionError("Screen not shown: " + selector);
+        }
+    }
+}
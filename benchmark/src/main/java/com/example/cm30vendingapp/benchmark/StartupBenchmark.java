@@ -0,0 +1,68 @@
+package com.example.cm30vendingapp.benchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Cold and warm startup of MainActivity.
+ *
+ * "Partial" runs use the baseline profile (what ships); "None" runs are the
+ * interpreted/JIT baseline for comparison. Limits are in benchmark-thresholds.properties.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void startupColdPartial() {
+        startup(new CompilationMode.Partial(), StartupMode.COLD);
+    }
+
+    @Test
+    public void startupColdNone() {
+        startup(new CompilationMode.None(), StartupMode.COLD);
+    }
+
+    @Test
+    public void startupWarmPartial() {
+        startup(new CompilationMode.Partial(), StartupMode.WARM);
+    }
+
+    @Test
+    public void startupWarmNone() {
+        startup(new CompilationMode.None(), StartupMode.WARM);
+    }
+
+    private void startup(CompilationMode compilationMode, StartupMode startupMode) {
+        benchmarkRule.measureRepeated(
+                FakeVendingBackend.PACKAGE_NAME,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                startupMode,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    new FakeVendingBackend(scope.getDevice()).waitForIdle();
+                    return Unit.INSTANCE;
+                });
+    }
+}
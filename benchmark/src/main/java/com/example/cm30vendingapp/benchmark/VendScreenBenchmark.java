@@ -0,0 +1,69 @@
+package com.example.cm30vendingapp.benchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Frame timing of the vend-state screens: card read -> success/failed,
+ * driven by FakeVendingService instead of the VMC and card reader.
+ */
+@RunWith(AndroidJUnit4.class)
+public class VendScreenBenchmark {
+
+    private static final int ITERATIONS = 5;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void vendScreenTransitionsPartial() {
+        vendScreenTransitions(new CompilationMode.Partial());
+    }
+
+    @Test
+    public void vendScreenTransitionsNone() {
+        vendScreenTransitions(new CompilationMode.None());
+    }
+
+    /**
+     * Each iteration measures one vend, from the card-read screen to the result screen;
+     * iterations alternate between approved and denied. Returning to the waiting screen
+     * (3 s of idle animation frames) happens in setup, outside the measured section.
+     */
+    private void vendScreenTransitions(CompilationMode compilationMode) {
+        int[] iteration = {0};
+        benchmarkRule.measureRepeated(
+                FakeVendingBackend.PACKAGE_NAME,
+                Collections.singletonList(new FrameTimingMetric()),
+                compilationMode,
+                null,
+                ITERATIONS,
+                scope -> {
+                    scope.startActivityAndWait();
+                    FakeVendingBackend backend = new FakeVendingBackend(scope.getDevice());
+                    backend.goOnline();
+                    backend.waitForIdle();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    FakeVendingBackend backend = new FakeVendingBackend(scope.getDevice());
+                    backend.startVend(1.50);
+                    if (iteration[0]++ % 2 == 0) {
+                        backend.approve();
+                    } else {
+                        backend.deny();
+                    }
+                    return Unit.INSTANCE;
+                });
+    }
+}